@@ -1,8 +1,11 @@
 package com.example.autocomplete.config;
 
-import org.springframework.cache.CacheManager;
+import com.example.autocomplete.tenant.TenantCacheManager;
+import com.example.autocomplete.tenant.TenantCacheResolver;
+import com.example.autocomplete.tenant.TenantMetrics;
+import com.example.autocomplete.tenant.TenantProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,9 +14,15 @@ import org.springframework.context.annotation.Configuration;
 public class CacheConfig {
     
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(java.util.Arrays.asList("suggestions", "suggestionsByCategory"));
-        return cacheManager;
+    public TenantCacheManager cacheManager(TenantProperties tenantProperties, TenantMetrics tenantMetrics) {
+        return new TenantCacheManager(
+                java.util.Arrays.asList("suggestions", "suggestionsByCategory", "infixSuggestions"),
+                tenantProperties.getCacheMaxBytes(),
+                tenantMetrics);
     }
-} 
\ No newline at end of file
+    
+    @Bean
+    public CacheResolver tenantCacheResolver(TenantCacheManager cacheManager) {
+        return new TenantCacheResolver(cacheManager);
+    }
+} 
@@ -1,7 +1,9 @@
 package com.example.autocomplete.config;
 
+import com.example.autocomplete.index.SuggestionIndexRegistry;
 import com.example.autocomplete.model.Suggestion;
 import com.example.autocomplete.repository.SuggestionRepository;
+import com.example.autocomplete.tenant.Tenants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -9,6 +11,8 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
 import java.util.stream.Stream;
 
 @Component
@@ -17,18 +21,37 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private SuggestionRepository suggestionRepository;
     
+    @Autowired
+    private SuggestionIndexRegistry suggestionIndexes;
+    
     @Override
     public void run(String... args) throws Exception {
         System.out.println("DataInitializer: Starting data initialization...");
         System.out.println("DataInitializer: Current count: " + suggestionRepository.count());
         
-        // Only initialize if no data exists
-        if (suggestionRepository.count() == 0) {
+        // Only initialize the default tenant if it has no data; other tenants start empty
+        if (suggestionRepository.countByTenant(Tenants.DEFAULT_TENANT) == 0) {
             System.out.println("DataInitializer: No data found, loading initial data...");
             loadGoogleWords();
         } else {
             System.out.println("DataInitializer: Data already exists, skipping initialization.");
         }
+        
+        backfillNormalizedText();
+        
+        // Load the per-tenant in-memory prefix indexes; lookups use the database until this completes
+        suggestionIndexes.rebuild(suggestionRepository.findAll());
+        System.out.println("DataInitializer: Suggestion indexes loaded: " + suggestionIndexes.sizes());
+    }
+    
+    private void backfillNormalizedText() {
+        List<Suggestion> missing = suggestionRepository.findByNormalizedTextIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        System.out.println("DataInitializer: Backfilling normalized_text for " + missing.size() + " suggestions");
+        missing.forEach(Suggestion::updateNormalizedText);
+        suggestionRepository.saveAll(missing);
     }
     
     private void loadGoogleWords() {
@@ -63,7 +86,7 @@ public class DataInitializer implements CommandLineRunner {
             try (Stream<String> lines = Files.lines(Paths.get(filePath))) {
                 lines.forEach(word -> {
                     if (!word.trim().isEmpty()) {
-                        Suggestion suggestion = new Suggestion(word.trim().toLowerCase(), "english");
+                        Suggestion suggestion = new Suggestion(word.trim().toLowerCase(Locale.ROOT), "english");
                         suggestionRepository.save(suggestion);
                     }
                 });
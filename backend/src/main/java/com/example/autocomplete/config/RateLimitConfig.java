@@ -0,0 +1,34 @@
+package com.example.autocomplete.config;
+
+import com.example.autocomplete.ratelimit.TokenBucketRateLimiter;
+import com.example.autocomplete.tenant.TenantProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+    
+    /**
+     * Per-client (remote address) limiter for /api/autocomplete/**
+     */
+    @Bean
+    public TokenBucketRateLimiter clientRateLimiter(
+            @Value("${autocomplete.ratelimit.requests-per-second:20}") double requestsPerSecond,
+            @Value("${autocomplete.ratelimit.burst:40}") double burst,
+            @Value("${autocomplete.ratelimit.max-clients:10000}") int maxClients) {
+        return new TokenBucketRateLimiter(requestsPerSecond, burst, maxClients);
+    }
+    
+    /**
+     * Per-tenant QPS limiter; individual tenants may override the default rate
+     * TenantFilter only admits configured tenants, so one bucket per configured tenant is enough
+     */
+    @Bean
+    public TokenBucketRateLimiter tenantRateLimiter(TenantProperties tenantProperties) {
+        return new TokenBucketRateLimiter(
+                tenantProperties.getDefaultQps(),
+                tenantProperties.getDefaultQps() * tenantProperties.getBurstSeconds(),
+                tenantProperties.getKnownTenantCount());
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.autocomplete.controller;
 
 import com.example.autocomplete.model.Suggestion;
+import com.example.autocomplete.index.SuggestionIndexRegistry;
+import com.example.autocomplete.ratelimit.AdaptiveConcurrencyLimiter;
 import com.example.autocomplete.repository.SuggestionRepository;
 import com.example.autocomplete.service.SuggestionService;
+import com.example.autocomplete.tenant.TenantCacheManager;
+import com.example.autocomplete.tenant.TenantMetrics;
+import com.example.autocomplete.tenant.TenantProperties;
+import com.example.autocomplete.tenant.Tenants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,12 +21,30 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AutocompleteController {
     
+    // Upper bound for the client-supplied result limit of the autocomplete endpoints
+    private static final int MAX_LIMIT = 100;
+    
     @Autowired
     private SuggestionService suggestionService;
     
     @Autowired
     private SuggestionRepository suggestionRepository;
     
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    
+    @Autowired
+    private TenantMetrics tenantMetrics;
+    
+    @Autowired
+    private TenantCacheManager tenantCacheManager;
+    
+    @Autowired
+    private SuggestionIndexRegistry suggestionIndexes;
+    
+    @Autowired
+    private TenantProperties tenantProperties;
+    
     /**
      * Test endpoint to check database status
      */
@@ -35,22 +60,47 @@ public class AutocompleteController {
     
     /**
      * Get autocomplete suggestions (Typeahead with debounce support)
+     * mode=prefix (default) matches the start of the text, mode=infix matches anywhere
+     * The X-Tenant-Id header selects the tenant namespace (default tenant if absent)
      */
     @GetMapping("/autocomplete")
     public ResponseEntity<List<Suggestion>> getSuggestions(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam String query,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "prefix") String mode) {
+        
+        limit = Math.min(limit, MAX_LIMIT);
+        System.out.println("Backend: Received request for tenant: " + tenant + ", query: " + query + ", limit: " + limit + ", mode: " + mode); // Debug log
         
-        System.out.println("Backend: Received request for query: " + query + ", limit: " + limit); // Debug log
+        boolean infix = "infix".equalsIgnoreCase(mode);
         
+        // Overloaded: answer from cache only, or shed fast instead of queueing on the DB pool
+        if (!concurrencyLimiter.tryAcquire(tenant)) {
+            tenantMetrics.recordShed(tenant);
+            List<Suggestion> cached = suggestionService.getCachedSuggestions(tenant, query, limit, infix);
+            if (cached != null) {
+                return ResponseEntity.ok().header("X-Autocomplete-Degraded", "cache-only").body(cached);
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        }
+        
+        long startNanos = System.nanoTime();
+        boolean success = false;
         try {
-            List<Suggestion> suggestions = suggestionService.getSuggestions(query, limit);
+            List<Suggestion> suggestions = infix
+                    ? suggestionService.getInfixSuggestions(tenant, query, limit)
+                    : suggestionService.getSuggestions(tenant, query, limit);
+            success = true;
             System.out.println("Backend: Found " + suggestions.size() + " suggestions"); // Debug log
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             System.err.println("Backend: Error getting suggestions: " + e.getMessage()); // Debug log
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
+        } finally {
+            concurrencyLimiter.release(tenant, startNanos, success);
+            tenantMetrics.recordRequest(tenant, System.nanoTime() - startNanos);
         }
     }
     
@@ -59,12 +109,14 @@ public class AutocompleteController {
      */
     @GetMapping("/autocomplete/category/{category}")
     public ResponseEntity<List<Suggestion>> getSuggestionsByCategory(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam String query,
             @PathVariable String category,
             @RequestParam(defaultValue = "10") int limit) {
         
+        limit = Math.min(limit, MAX_LIMIT);
         try {
-            List<Suggestion> suggestions = suggestionService.getSuggestionsByCategory(query, category, limit);
+            List<Suggestion> suggestions = suggestionService.getSuggestionsByCategory(tenant, query, category, limit);
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -75,9 +127,11 @@ public class AutocompleteController {
      * Record suggestion selection for learning capability
      */
     @PostMapping("/autocomplete/select/{id}")
-    public ResponseEntity<Void> recordSelection(@PathVariable Long id) {
+    public ResponseEntity<Void> recordSelection(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
+            @PathVariable Long id) {
         try {
-            suggestionService.recordSuggestionSelection(id);
+            suggestionService.recordSuggestionSelection(tenant, id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -91,11 +145,12 @@ public class AutocompleteController {
      */
     @PostMapping("/admin/suggestions")
     public ResponseEntity<Suggestion> addSuggestion(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam String text,
             @RequestParam(required = false) String category) {
         
         try {
-            Suggestion suggestion = suggestionService.addSuggestion(text, category);
+            Suggestion suggestion = suggestionService.addSuggestion(tenant, text, category);
             return ResponseEntity.ok(suggestion);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -106,9 +161,10 @@ public class AutocompleteController {
      * Get all suggestions (Admin Dashboard)
      */
     @GetMapping("/admin/suggestions")
-    public ResponseEntity<List<Suggestion>> getAllSuggestions() {
+    public ResponseEntity<List<Suggestion>> getAllSuggestions(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant) {
         try {
-            List<Suggestion> suggestions = suggestionService.getAllSuggestions();
+            List<Suggestion> suggestions = suggestionService.getAllSuggestions(tenant);
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -119,9 +175,11 @@ public class AutocompleteController {
      * Get suggestions by category (Admin Dashboard)
      */
     @GetMapping("/admin/suggestions/category/{category}")
-    public ResponseEntity<List<Suggestion>> getSuggestionsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<Suggestion>> getSuggestionsByCategory(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
+            @PathVariable String category) {
         try {
-            List<Suggestion> suggestions = suggestionService.getSuggestionsByCategory(category);
+            List<Suggestion> suggestions = suggestionService.getSuggestionsByCategory(tenant, category);
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -133,9 +191,10 @@ public class AutocompleteController {
      */
     @GetMapping("/admin/suggestions/recent")
     public ResponseEntity<List<Suggestion>> getRecentlyUsed(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<Suggestion> suggestions = suggestionService.getRecentlyUsedSuggestions(limit);
+            List<Suggestion> suggestions = suggestionService.getRecentlyUsedSuggestions(tenant, limit);
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -147,10 +206,11 @@ public class AutocompleteController {
      */
     @GetMapping("/admin/suggestions/frequency")
     public ResponseEntity<List<Suggestion>> getByFrequencyRange(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam int minFreq,
             @RequestParam int maxFreq) {
         try {
-            List<Suggestion> suggestions = suggestionService.getSuggestionsByFrequencyRange(minFreq, maxFreq);
+            List<Suggestion> suggestions = suggestionService.getSuggestionsByFrequencyRange(tenant, minFreq, maxFreq);
             return ResponseEntity.ok(suggestions);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -161,9 +221,35 @@ public class AutocompleteController {
      * Get statistics (Admin Dashboard)
      */
     @GetMapping("/admin/stats")
-    public ResponseEntity<SuggestionService.SuggestionStats> getStats() {
+    public ResponseEntity<SuggestionService.SuggestionStats> getStats(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant) {
+        try {
+            SuggestionService.SuggestionStats stats = suggestionService.getStats(tenant);
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Get per-tenant traffic, shedding, cache and index metrics (Admin Dashboard)
+     * Read-only: looking up a tenant never creates metrics, cache or index state for it
+     */
+    @GetMapping("/admin/tenants/{tenantId}/metrics")
+    public ResponseEntity<TenantMetrics.TenantStats> getTenantMetrics(@PathVariable String tenantId) {
+        if (!Tenants.isValid(tenantId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!tenantProperties.isKnown(tenantId)) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            SuggestionService.SuggestionStats stats = suggestionService.getStats();
+            TenantMetrics.TenantStats stats = tenantMetrics.getStats(
+                    tenantId,
+                    tenantCacheManager.getUsedBytes(tenantId),
+                    suggestionIndexes.sizeOf(tenantId),
+                    concurrencyLimiter.getLimit(tenantId),
+                    concurrencyLimiter.getInFlight(tenantId));
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -175,11 +261,12 @@ public class AutocompleteController {
      */
     @PutMapping("/admin/suggestions/{id}")
     public ResponseEntity<Suggestion> updateSuggestion(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @PathVariable Long id,
             @RequestParam String text,
             @RequestParam(required = false) String category) {
         try {
-            Suggestion suggestion = suggestionService.updateSuggestion(id, text, category);
+            Suggestion suggestion = suggestionService.updateSuggestion(tenant, id, text, category);
             return ResponseEntity.ok(suggestion);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -190,9 +277,11 @@ public class AutocompleteController {
      * Delete suggestion (Admin Dashboard)
      */
     @DeleteMapping("/admin/suggestions/{id}")
-    public ResponseEntity<Void> deleteSuggestion(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteSuggestion(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
+            @PathVariable Long id) {
         try {
-            suggestionService.deleteSuggestion(id);
+            suggestionService.deleteSuggestion(tenant, id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -204,10 +293,11 @@ public class AutocompleteController {
      */
     @PostMapping("/admin/suggestions/bulk")
     public ResponseEntity<Void> bulkAddSuggestions(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestBody List<String> texts,
             @RequestParam(required = false) String category) {
         try {
-            suggestionService.bulkAddSuggestions(texts, category);
+            suggestionService.bulkAddSuggestions(tenant, texts, category);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -221,24 +311,28 @@ public class AutocompleteController {
      */
     @PostMapping("/suggestions")
     public ResponseEntity<Suggestion> addSuggestionLegacy(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
             @RequestParam String text,
             @RequestParam(required = false) String category) {
-        return addSuggestion(text, category);
+        return addSuggestion(tenant, text, category);
     }
     
     /**
      * Get all suggestions (Legacy endpoint)
      */
     @GetMapping("/suggestions")
-    public ResponseEntity<List<Suggestion>> getAllSuggestionsLegacy() {
-        return getAllSuggestions();
+    public ResponseEntity<List<Suggestion>> getAllSuggestionsLegacy(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant) {
+        return getAllSuggestions(tenant);
     }
     
     /**
      * Delete suggestion (Legacy endpoint)
      */
     @DeleteMapping("/suggestions/{id}")
-    public ResponseEntity<Void> deleteSuggestionLegacy(@PathVariable Long id) {
-        return deleteSuggestion(id);
+    public ResponseEntity<Void> deleteSuggestionLegacy(
+            @RequestHeader(value = Tenants.HEADER, defaultValue = Tenants.DEFAULT_TENANT) String tenant,
+            @PathVariable Long id) {
+        return deleteSuggestion(tenant, id);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,340 @@
+package com.example.autocomplete.index;
+
+import com.example.autocomplete.model.Suggestion;
+import com.example.autocomplete.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory prefix index over all suggestions, organised like a small LSM tree:
+ * an immutable sorted base, a frozen delta being merged into it, and an active delta
+ * receiving writes. Readers take a single volatile read of the current snapshot and
+ * never block; writers copy the (small) active delta and swap in a new snapshot.
+ * One instance per tenant, created and merged by SuggestionIndexRegistry.
+ */
+public class SuggestionIndex {
+
+    // Ranking used by the autocomplete endpoints: frequency, then recency, then text
+    public static final Comparator<Suggestion> RANKING = Comparator
+            .comparing(Suggestion::getFrequency, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Suggestion::getLastUsed, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Suggestion::getText);
+
+    // Marks a key deleted in a delta layer until the next merge
+    private static final Suggestion TOMBSTONE = new Suggestion();
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+
+    private final int mergeThreshold;
+
+    // Single-threaded executor shared by all tenant indexes; merges never run concurrently
+    private final Executor merger;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Serialises writers only; readers never take it
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public SuggestionIndex(int mergeThreshold, Executor merger) {
+        this.mergeThreshold = mergeThreshold;
+        this.merger = merger;
+    }
+
+    /**
+     * Replace the base with the given suggestions (startup load)
+     * The load may run while writes are being applied, so pending delta entries survive
+     * unless the loaded row is already at least as new; a merge in flight skips its swap
+     */
+    public void rebuild(Collection<Suggestion> suggestions) {
+        TreeMap<String, Suggestion> sorted = new TreeMap<>();
+        for (Suggestion suggestion : suggestions) {
+            sorted.put(keyOf(suggestion.getText()), copyOf(suggestion));
+        }
+        String[] keys = sorted.keySet().toArray(new String[0]);
+        Suggestion[] values = sorted.values().toArray(new Suggestion[0]);
+
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            TreeMap<String, Suggestion> pending = new TreeMap<>();
+            if (current.frozen != null) {
+                pending.putAll(current.frozen);
+            }
+            pending.putAll(current.active);
+            pending.entrySet().removeIf(entry -> {
+                Suggestion loaded = sorted.get(entry.getKey());
+                return entry.getValue() != TOMBSTONE && loaded != null && !isNewer(entry.getValue(), loaded);
+            });
+            snapshot = new Snapshot(keys, values, null, Collections.unmodifiableNavigableMap(pending));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a batch of removals (by text) and upserts in one snapshot swap
+     * Commits can publish out of order, so an upsert older than the indexed entry
+     * (lower frequency, or same frequency and earlier lastUsed) is ignored
+     */
+    public void apply(Collection<Suggestion> upserts, Collection<String> removedTexts) {
+        if (upserts.isEmpty() && removedTexts.isEmpty()) {
+            return;
+        }
+        int activeSize;
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            TreeMap<String, Suggestion> active = new TreeMap<>(current.active);
+            for (String text : removedTexts) {
+                active.put(keyOf(text), TOMBSTONE);
+            }
+            for (Suggestion suggestion : upserts) {
+                String key = keyOf(suggestion.getText());
+                Suggestion existing = lookup(current, active, key);
+                if (existing == null || existing == TOMBSTONE || !isNewer(existing, suggestion)) {
+                    active.put(key, copyOf(suggestion));
+                }
+            }
+            snapshot = new Snapshot(current.baseKeys, current.baseValues, current.frozen,
+                    Collections.unmodifiableNavigableMap(active));
+            activeSize = active.size();
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (activeSize >= mergeThreshold) {
+            merger.execute(this::merge);
+        }
+    }
+
+    public void upsert(Suggestion suggestion) {
+        apply(List.of(suggestion), List.of());
+    }
+
+    public void remove(String text) {
+        apply(List.of(), List.of(text));
+    }
+
+    /**
+     * Top suggestions whose text starts with the prefix, optionally restricted to a category
+     */
+    public List<Suggestion> search(String prefix, String category, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        String from = TextNormalizer.normalize(prefix);
+        String to = from + Character.MAX_VALUE;
+
+        // Worst candidate at the head so it can be evicted once we have `limit` results;
+        // the initial capacity does not trust `limit`, the queue grows only with actual matches
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(Math.min(limit, INITIAL_QUEUE_CAPACITY) + 1, RANKING.reversed());
+
+        for (Suggestion suggestion : current.active.subMap(from, to).values()) {
+            offer(top, suggestion, category, limit);
+        }
+        if (current.frozen != null) {
+            for (Map.Entry<String, Suggestion> entry : current.frozen.subMap(from, to).entrySet()) {
+                if (!current.active.containsKey(entry.getKey())) {
+                    offer(top, entry.getValue(), category, limit);
+                }
+            }
+        }
+        for (int i = lowerBound(current.baseKeys, from); i < current.baseKeys.length; i++) {
+            String key = current.baseKeys[i];
+            if (!key.startsWith(from)) {
+                break;
+            }
+            if (current.active.containsKey(key) || (current.frozen != null && current.frozen.containsKey(key))) {
+                continue;
+            }
+            offer(top, current.baseValues[i], category, limit);
+        }
+
+        List<Suggestion> results = new ArrayList<>(top);
+        results.sort(RANKING);
+        return results;
+    }
+
+    /**
+     * Approximate number of entries (base plus pending delta entries)
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current.baseKeys.length + current.active.size()
+                + (current.frozen != null ? current.frozen.size() : 0);
+    }
+
+    /**
+     * Freeze the active delta and merge it into a new base; runs only on the merger thread
+     */
+    void merge() {
+        try {
+            Snapshot frozenSnapshot = freeze();
+            if (frozenSnapshot != null) {
+                mergeFrozen(frozenSnapshot);
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled merge alive; the frozen delta is still served and retried next run
+            System.err.println("SuggestionIndex: merge failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Move the active delta to the frozen slot, returns null if there is nothing to merge
+     */
+    Snapshot freeze() {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current.frozen != null) {
+                // A previous merge did not finish; merge that delta first
+                return current;
+            }
+            if (current.active.isEmpty()) {
+                return null;
+            }
+            snapshot = new Snapshot(current.baseKeys, current.baseValues, current.active, Snapshot.EMPTY_DELTA);
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Merge a frozen delta into a new base and swap it in, unless the index changed underneath
+     */
+    void mergeFrozen(Snapshot frozenSnapshot) {
+        // The expensive part runs without the lock; writers keep filling the new active delta
+        String[] baseKeys = frozenSnapshot.baseKeys;
+        Suggestion[] baseValues = frozenSnapshot.baseValues;
+        NavigableMap<String, Suggestion> delta = frozenSnapshot.frozen;
+
+        List<String> keys = new ArrayList<>(baseKeys.length + delta.size());
+        List<Suggestion> values = new ArrayList<>(baseKeys.length + delta.size());
+        int i = 0;
+        for (Map.Entry<String, Suggestion> entry : delta.entrySet()) {
+            while (i < baseKeys.length && baseKeys[i].compareTo(entry.getKey()) < 0) {
+                keys.add(baseKeys[i]);
+                values.add(baseValues[i]);
+                i++;
+            }
+            if (i < baseKeys.length && baseKeys[i].equals(entry.getKey())) {
+                i++;
+            }
+            if (entry.getValue() != TOMBSTONE) {
+                keys.add(entry.getKey());
+                values.add(entry.getValue());
+            }
+        }
+        for (; i < baseKeys.length; i++) {
+            keys.add(baseKeys[i]);
+            values.add(baseValues[i]);
+        }
+        String[] mergedKeys = keys.toArray(new String[0]);
+        Suggestion[] mergedValues = values.toArray(new Suggestion[0]);
+
+        writeLock.lock();
+        try {
+            // Skip the swap if the index was rebuilt while we were merging
+            if (snapshot.frozen == delta) {
+                snapshot = new Snapshot(mergedKeys, mergedValues, null, snapshot.active);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<Suggestion> top, Suggestion suggestion, String category, int limit) {
+        if (suggestion == TOMBSTONE) {
+            return;
+        }
+        if (category != null && !category.equals(suggestion.getCategory())) {
+            return;
+        }
+        top.offer(suggestion);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    // Newest layer first: active delta, frozen delta, then base
+    private static Suggestion lookup(Snapshot current, NavigableMap<String, Suggestion> active, String key) {
+        Suggestion found = active.get(key);
+        if (found == null && current.frozen != null) {
+            found = current.frozen.get(key);
+        }
+        if (found == null) {
+            int index = Arrays.binarySearch(current.baseKeys, key);
+            found = index >= 0 ? current.baseValues[index] : null;
+        }
+        return found;
+    }
+
+    // Frequency only grows and lastUsed only moves forward, so together they order versions of a row
+    private static boolean isNewer(Suggestion candidate, Suggestion than) {
+        int byFrequency = Integer.compare(frequencyOf(candidate), frequencyOf(than));
+        if (byFrequency != 0) {
+            return byFrequency > 0;
+        }
+        return candidate.getLastUsed() != null
+                && (than.getLastUsed() == null || candidate.getLastUsed().isAfter(than.getLastUsed()));
+    }
+
+    private static int frequencyOf(Suggestion suggestion) {
+        return suggestion.getFrequency() != null ? suggestion.getFrequency() : 0;
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Folded key first so prefix ranges work on normalized text; raw text keeps "café" and "cafe" rows distinct
+    private static String keyOf(String text) {
+        return TextNormalizer.normalize(text) + KEY_SEPARATOR + text;
+    }
+
+    // Entities handed out by the index must not be shared with the persistence context
+    private static Suggestion copyOf(Suggestion source) {
+        Suggestion copy = new Suggestion(source.getTenant(), source.getText(), source.getCategory());
+        copy.setId(source.getId());
+        copy.setFrequency(source.getFrequency());
+        copy.setLastUsed(source.getLastUsed());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    // Immutable view of the index; published through the volatile `snapshot` field
+    static final class Snapshot {
+        private static final NavigableMap<String, Suggestion> EMPTY_DELTA =
+                Collections.unmodifiableNavigableMap(new TreeMap<>());
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new Suggestion[0], null, EMPTY_DELTA);
+
+        private final String[] baseKeys;
+        private final Suggestion[] baseValues;
+        private final NavigableMap<String, Suggestion> frozen;
+        private final NavigableMap<String, Suggestion> active;
+
+        private Snapshot(String[] baseKeys, Suggestion[] baseValues,
+                         NavigableMap<String, Suggestion> frozen, NavigableMap<String, Suggestion> active) {
+            this.baseKeys = baseKeys;
+            this.baseValues = baseValues;
+            this.frozen = frozen;
+            this.active = active;
+        }
+    }
+}
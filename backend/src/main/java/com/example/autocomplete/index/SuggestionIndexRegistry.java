@@ -0,0 +1,94 @@
+package com.example.autocomplete.index;
+
+import com.example.autocomplete.model.Suggestion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One SuggestionIndex per tenant so a tenant's bulk import only grows and merges its own index
+ */
+@Component
+public class SuggestionIndexRegistry {
+
+    @Value("${autocomplete.index.merge-threshold:4096}")
+    private int mergeThreshold;
+
+    @Value("${autocomplete.index.merge-interval-ms:5000}")
+    private long mergeIntervalMs;
+
+    private final ConcurrentHashMap<String, SuggestionIndex> indexes = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    private ScheduledExecutorService merger;
+
+    @PostConstruct
+    void start() {
+        merger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suggestion-index-merger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        merger.scheduleWithFixedDelay(this::mergeAll, mergeIntervalMs, mergeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        merger.shutdownNow();
+    }
+
+    /**
+     * True once the indexes have been loaded and can serve lookups
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Index for the tenant, created empty on first use
+     */
+    public SuggestionIndex forTenant(String tenant) {
+        return indexes.computeIfAbsent(tenant, key -> new SuggestionIndex(mergeThreshold, merger));
+    }
+
+    /**
+     * Replace all indexes with the given suggestions, grouped by tenant (startup load)
+     */
+    public void rebuild(Collection<Suggestion> suggestions) {
+        Map<String, List<Suggestion>> byTenant = suggestions.stream()
+                .collect(Collectors.groupingBy(Suggestion::getTenant));
+        byTenant.forEach((tenant, tenantSuggestions) -> forTenant(tenant).rebuild(tenantSuggestions));
+        ready = true;
+    }
+
+    /**
+     * Approximate number of entries in the tenant's index, 0 if it has none (does not create one)
+     */
+    public int sizeOf(String tenant) {
+        SuggestionIndex index = indexes.get(tenant);
+        return index != null ? index.size() : 0;
+    }
+
+    /**
+     * Approximate number of entries per tenant
+     */
+    public Map<String, Integer> sizes() {
+        return indexes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().size()));
+    }
+
+    private void mergeAll() {
+        indexes.values().forEach(SuggestionIndex::merge);
+    }
+}
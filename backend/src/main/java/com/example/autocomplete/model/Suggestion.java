@@ -1,19 +1,32 @@
 package com.example.autocomplete.model;
 
+import com.example.autocomplete.tenant.Tenants;
+import com.example.autocomplete.util.TextNormalizer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "suggestions")
+@Table(name = "suggestions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_suggestions_tenant_text", columnNames = {"tenant", "text"}))
 public class Suggestion {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false, unique = true)
+    // Tenant namespace; text is unique per tenant, not globally
+    @Column(nullable = false, columnDefinition = "varchar(64) default 'default'")
+    private String tenant;
+    
+    @Column(nullable = false)
     private String text;
     
+    // Folded search key (see TextNormalizer); queries compare against this column only
+    @JsonIgnore
+    @Column(name = "normalized_text")
+    private String normalizedText;
+    
     @Column
     private String category;
     
@@ -28,6 +41,7 @@ public class Suggestion {
     
     // Default constructor
     public Suggestion() {
+        this.tenant = Tenants.DEFAULT_TENANT;
         this.frequency = 1;
         this.createdAt = LocalDateTime.now();
         this.lastUsed = LocalDateTime.now();
@@ -36,16 +50,22 @@ public class Suggestion {
     // Constructor with text
     public Suggestion(String text) {
         this();
-        this.text = text;
+        setText(text);
     }
     
     // Constructor with text and category
     public Suggestion(String text, String category) {
         this();
-        this.text = text;
+        setText(text);
         this.category = category;
     }
     
+    // Constructor with tenant, text and category
+    public Suggestion(String tenant, String text, String category) {
+        this(text, category);
+        this.tenant = tenant;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -55,12 +75,32 @@ public class Suggestion {
         this.id = id;
     }
     
+    public String getTenant() {
+        return tenant;
+    }
+    
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+    
     public String getText() {
         return text;
     }
     
     public void setText(String text) {
         this.text = text;
+        this.normalizedText = TextNormalizer.normalize(text);
+    }
+    
+    public String getNormalizedText() {
+        return normalizedText;
+    }
+    
+    // Recompute the folded key before every write (also backfills rows created before the column existed)
+    @PrePersist
+    @PreUpdate
+    public void updateNormalizedText() {
+        this.normalizedText = TextNormalizer.normalize(text);
     }
     
     public String getCategory() {
@@ -105,6 +145,7 @@ public class Suggestion {
     public String toString() {
         return "Suggestion{" +
                 "id=" + id +
+                ", tenant='" + tenant + '\'' +
                 ", text='" + text + '\'' +
                 ", category='" + category + '\'' +
                 ", frequency=" + frequency +
@@ -0,0 +1,114 @@
+package com.example.autocomplete.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency-aware AIMD concurrency limiter for the autocomplete endpoint, one limit per tenant
+ * Each limit grows by ~1 per round trip while latency is healthy and is cut
+ * multiplicatively when a request exceeds the latency target or fails
+ * (a fast failure, e.g. a pool timeout, is a sign of overload, not of health).
+ * A tenant saturating its own limit only sheds its own requests; min-limit is the
+ * concurrency every tenant keeps however far the others have pushed latency up.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    @Value("${autocomplete.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${autocomplete.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${autocomplete.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${autocomplete.concurrency.latency-target-ms:50}")
+    private long latencyTargetMs;
+
+    @Value("${autocomplete.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    // Bounded by the configured tenants (TenantFilter rejects the rest)
+    private final ConcurrentHashMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Try to admit a request for the tenant, returns false if the tenant's concurrency limit is reached
+     */
+    public boolean tryAcquire(String tenant) {
+        Limit tenantLimit = limitFor(tenant);
+        int limit = (int) tenantLimit.get();
+        while (true) {
+            int current = tenantLimit.inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (tenantLimit.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and feed its outcome and latency into the tenant's limit
+     */
+    public void release(String tenant, long startNanos, boolean success) {
+        Limit tenantLimit = limitFor(tenant);
+        long latencyMs = (System.nanoTime() - startNanos) / 1_000_000;
+        int current = tenantLimit.inFlight.getAndDecrement();
+        boolean overTarget = !success || latencyMs > latencyTargetMs;
+
+        tenantLimit.bits.updateAndGet(bits -> {
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            if (overTarget) {
+                next = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                // Only grow when the limit is actually being used
+                next = Math.min(maxLimit, limit + 1.0 / limit);
+            } else {
+                next = limit;
+            }
+            return Double.doubleToLongBits(next);
+        });
+    }
+
+    /**
+     * Current concurrency limit of the tenant (initial limit if it has had no requests yet)
+     */
+    public double getLimit(String tenant) {
+        Limit tenantLimit = limits.get(tenant);
+        return tenantLimit != null ? tenantLimit.get() : initialLimit;
+    }
+
+    /**
+     * Requests of the tenant currently admitted and not yet released
+     */
+    public int getInFlight(String tenant) {
+        Limit tenantLimit = limits.get(tenant);
+        return tenantLimit != null ? tenantLimit.inFlight.get() : 0;
+    }
+
+    private Limit limitFor(String tenant) {
+        return limits.computeIfAbsent(tenant, key -> new Limit(initialLimit));
+    }
+
+    private static final class Limit {
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        // Current limit stored as double bits so fractional additive increases accumulate
+        private final AtomicLong bits;
+
+        private Limit(double initial) {
+            this.bits = new AtomicLong(Double.doubleToLongBits(initial));
+        }
+
+        private double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+}
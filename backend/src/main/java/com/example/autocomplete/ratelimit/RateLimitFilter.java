@@ -0,0 +1,66 @@
+package com.example.autocomplete.ratelimit;
+
+import com.example.autocomplete.tenant.TenantMetrics;
+import com.example.autocomplete.tenant.TenantProperties;
+import com.example.autocomplete.tenant.Tenants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects autocomplete requests with a fast 429 when the client exceeds its token bucket
+ * or the tenant exceeds its QPS budget
+ * The client bucket is keyed on the remote address alone, so switching X-Tenant-Id does not buy more requests
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTOCOMPLETE_PATH = "/api/autocomplete";
+
+    @Autowired
+    @Qualifier("clientRateLimiter")
+    private TokenBucketRateLimiter clientRateLimiter;
+
+    @Autowired
+    @Qualifier("tenantRateLimiter")
+    private TokenBucketRateLimiter tenantRateLimiter;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Autowired
+    private TenantMetrics tenantMetrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || !request.getRequestURI().startsWith(AUTOCOMPLETE_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(Tenants.HEADER);
+        if (tenant == null) {
+            tenant = Tenants.DEFAULT_TENANT;
+        }
+
+        boolean admitted = clientRateLimiter.tryAcquire(request.getRemoteAddr())
+                && tenantRateLimiter.tryAcquire(tenant, tenantProperties.qpsFor(tenant), tenantProperties.burstFor(tenant));
+        if (!admitted) {
+            tenantMetrics.recordRateLimited(tenant);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.autocomplete.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter keyed by client (or tenant), see RateLimitConfig
+ * Buckets are updated with CAS (no locks) and the number of tracked keys is capped
+ */
+public class TokenBucketRateLimiter {
+
+    private final double refillPerSecond;
+
+    private final double capacity;
+
+    private final int maxClients;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // Earliest time of the next idle-bucket sweep; sweeps are O(n) so they run at most once per refill interval
+    private final AtomicLong nextEvictionNanos = new AtomicLong();
+
+    private final long evictionIntervalNanos;
+
+    // Shared by new clients while the table is full of active clients
+    private final TokenBucket overflowBucket;
+
+    // Monotonic time source in nanoseconds (System.nanoTime outside tests)
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(double refillPerSecond, double capacity, int maxClients) {
+        this(refillPerSecond, capacity, maxClients, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double refillPerSecond, double capacity, int maxClients, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.refillPerSecond = refillPerSecond;
+        this.capacity = capacity;
+        this.maxClients = maxClients;
+        // Time for an empty bucket to refill completely, i.e. to become evictable
+        this.evictionIntervalNanos = (long) (capacity / refillPerSecond * 1_000_000_000L);
+        this.nextEvictionNanos.set(nanoClock.getAsLong());
+        this.overflowBucket = new TokenBucket(refillPerSecond, capacity, nanoClock.getAsLong());
+    }
+
+    /**
+     * Take one token from the client's bucket, returns false if the client is over its rate
+     */
+    public boolean tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, refillPerSecond, capacity);
+    }
+
+    /**
+     * Same as tryAcquire(String) with a per-key rate, applied when the key's bucket is created
+     */
+    public boolean tryAcquire(String clientKey, double refillPerSecond, double capacity) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(clientKey);
+
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                evictIdleBuckets(now);
+            }
+            if (buckets.size() >= maxClients) {
+                return overflowBucket.tryAcquire(now);
+            }
+            bucket = buckets.computeIfAbsent(clientKey, key -> new TokenBucket(refillPerSecond, capacity, now));
+        }
+
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like a new bucket
+     * Only one caller per refill interval sweeps, everyone else goes straight to the overflow bucket
+     */
+    private void evictIdleBuckets(long now) {
+        long next = nextEvictionNanos.get();
+        if (now - next < 0 || !nextEvictionNanos.compareAndSet(next, now + evictionIntervalNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Immutable bucket state swapped atomically
+    private static final class State {
+        private final double tokens;
+        private final long lastRefillNanos;
+
+        private State(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double refillPerSecond;
+        private final double capacity;
+        private final AtomicReference<State> state;
+
+        private TokenBucket(double refillPerSecond, double capacity, long now) {
+            this.refillPerSecond = refillPerSecond;
+            this.capacity = capacity;
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        private boolean tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = refill(current, now);
+                if (tokens < 1.0) {
+                    return false;
+                }
+                State next = new State(tokens - 1.0, Math.max(now, current.lastRefillNanos));
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isFull(long now) {
+            return refill(state.get(), now) >= capacity;
+        }
+
+        private double refill(State current, long now) {
+            long elapsedNanos = Math.max(0L, now - current.lastRefillNanos);
+            return Math.min(capacity, current.tokens + elapsedNanos * refillPerSecond / 1_000_000_000.0);
+        }
+    }
+}
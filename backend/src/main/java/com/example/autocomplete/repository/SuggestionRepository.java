@@ -7,66 +7,116 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SuggestionRepository extends JpaRepository<Suggestion, Long> {
     
     /**
      * Optimized prefix search with frequency-based ranking
-     * Uses database indexes for better performance (< 100ms)
+     * Compares the pre-normalized key only, so the text_pattern_ops index applies (< 100ms)
+     * The query must already be normalized with TextNormalizer and LIKE-escaped (SuggestionService.likePattern)
      */
-    @Query("SELECT s FROM Suggestion s WHERE LOWER(s.text) LIKE LOWER(CONCAT(:query, '%')) " +
+    @Query("SELECT s FROM Suggestion s WHERE s.tenant = :tenant AND s.normalizedText LIKE CONCAT(:query, '%') ESCAPE '\\' " +
            "ORDER BY s.frequency DESC, s.lastUsed DESC, s.text ASC")
-    List<Suggestion> findByTextStartingWithIgnoreCaseOrderByFrequencyDescLastUsedDescTextAsc(@Param("query") String query);
+    List<Suggestion> findByTenantAndNormalizedTextStartingWithOrderByFrequencyDescLastUsedDescTextAsc(
+            @Param("tenant") String tenant,
+            @Param("query") String query);
     
     /**
-     * Category-based search with optimized ranking
+     * Category-based search with optimized ranking (query must already be normalized and LIKE-escaped)
      */
-    @Query("SELECT s FROM Suggestion s WHERE s.category = :category AND LOWER(s.text) LIKE LOWER(CONCAT(:query, '%')) " +
+    @Query("SELECT s FROM Suggestion s WHERE s.tenant = :tenant AND s.category = :category " +
+           "AND s.normalizedText LIKE CONCAT(:query, '%') ESCAPE '\\' " +
            "ORDER BY s.frequency DESC, s.lastUsed DESC, s.text ASC")
-    List<Suggestion> findByCategoryAndTextStartingWithIgnoreCaseOrderByFrequencyDescLastUsedDescTextAsc(
+    List<Suggestion> findByTenantAndCategoryAndNormalizedTextStartingWithOrderByFrequencyDescLastUsedDescTextAsc(
+            @Param("tenant") String tenant,
             @Param("category") String category, 
             @Param("query") String query);
     
     /**
-     * Check if a suggestion with the given text exists
+     * Infix/substring search backed by the tenant-leading pg_trgm GIN index (see schema.sql)
+     * Prefix matches are ranked above infix matches, then by frequency (query must already be normalized and LIKE-escaped)
+     */
+    @Query(value = "SELECT * FROM suggestions s WHERE s.tenant = :tenant AND s.normalized_text LIKE CONCAT('%', :query, '%') ESCAPE '\\' " +
+           "ORDER BY CASE WHEN s.normalized_text LIKE CONCAT(:query, '%') ESCAPE '\\' THEN 0 ELSE 1 END, " +
+           "s.frequency DESC, s.last_used DESC, s.text ASC LIMIT :limit",
+           nativeQuery = true)
+    List<Suggestion> findByTenantAndNormalizedTextContainingPrefixFirst(
+            @Param("tenant") String tenant,
+            @Param("query") String query,
+            @Param("limit") int limit);
+    
+    /**
+     * Check if a suggestion with the given normalized key exists in the tenant
+     */
+    boolean existsByTenantAndNormalizedText(String tenant, String normalizedText);
+    
+    /**
+     * Find a suggestion by normalized key ("Café" and "cafe" are the same suggestion)
+     */
+    Suggestion findFirstByTenantAndNormalizedText(String tenant, String normalizedText);
+    
+    /**
+     * Existing suggestions among a batch of normalized keys (bulk import)
      */
-    boolean existsByTextIgnoreCase(String text);
+    List<Suggestion> findByTenantAndNormalizedTextIn(String tenant, Collection<String> normalizedTexts);
     
     /**
-     * Find a suggestion by text (case-insensitive)
+     * Find a suggestion by id, only if it belongs to the tenant
      */
-    Suggestion findByTextIgnoreCase(String text);
+    Optional<Suggestion> findByIdAndTenant(Long id, String tenant);
+    
+    /**
+     * All suggestions of a tenant (for admin dashboard)
+     */
+    List<Suggestion> findByTenant(String tenant);
+    
+    /**
+     * Rows created before the normalized_text column existed (backfilled at startup)
+     */
+    List<Suggestion> findByNormalizedTextIsNull();
     
     /**
      * Update frequency and last used time when suggestion is selected
      */
     @Modifying
-    @Query("UPDATE Suggestion s SET s.frequency = s.frequency + 1, s.lastUsed = CURRENT_TIMESTAMP WHERE s.id = :id")
-    void incrementFrequencyAndUpdateLastUsed(@Param("id") Long id);
+    @Query("UPDATE Suggestion s SET s.frequency = s.frequency + 1, s.lastUsed = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id AND s.tenant = :tenant")
+    int incrementFrequencyAndUpdateLastUsed(@Param("tenant") String tenant, @Param("id") Long id);
     
     /**
      * Get suggestions by frequency range (for admin dashboard)
      */
-    @Query("SELECT s FROM Suggestion s WHERE s.frequency BETWEEN :minFreq AND :maxFreq ORDER BY s.frequency DESC")
-    List<Suggestion> findByFrequencyRange(@Param("minFreq") Integer minFreq, @Param("maxFreq") Integer maxFreq);
+    @Query("SELECT s FROM Suggestion s WHERE s.tenant = :tenant AND s.frequency BETWEEN :minFreq AND :maxFreq " +
+           "ORDER BY s.frequency DESC")
+    List<Suggestion> findByFrequencyRange(
+            @Param("tenant") String tenant,
+            @Param("minFreq") Integer minFreq,
+            @Param("maxFreq") Integer maxFreq);
     
     /**
      * Get recently used suggestions (for learning capability)
      */
-    @Query("SELECT s FROM Suggestion s ORDER BY s.lastUsed DESC LIMIT :limit")
-    List<Suggestion> findRecentlyUsed(@Param("limit") int limit);
+    @Query("SELECT s FROM Suggestion s WHERE s.tenant = :tenant ORDER BY s.lastUsed DESC LIMIT :limit")
+    List<Suggestion> findRecentlyUsed(@Param("tenant") String tenant, @Param("limit") int limit);
     
     /**
      * Get suggestions by category (for admin dashboard)
      */
-    List<Suggestion> findByCategoryOrderByFrequencyDesc(String category);
+    List<Suggestion> findByTenantAndCategoryOrderByFrequencyDesc(String tenant, String category);
+    
+    /**
+     * Count suggestions of a tenant
+     */
+    long countByTenant(String tenant);
     
     /**
-     * Count suggestions by category
+     * Count suggestions by category within a tenant
      */
-    long countByCategory(String category);
+    long countByTenantAndCategory(String tenant, String category);
     
     /**
      * Test method to check if repository is working
@@ -1,29 +1,68 @@
 package com.example.autocomplete.service;
 
+import com.example.autocomplete.index.SuggestionIndexRegistry;
 import com.example.autocomplete.model.Suggestion;
 import com.example.autocomplete.repository.SuggestionRepository;
+import com.example.autocomplete.tenant.TenantCacheManager;
+import com.example.autocomplete.util.TextNormalizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
+/**
+ * All operations are scoped to a tenant namespace, passed as the first argument
+ * (TenantCacheResolver relies on that position to pick the tenant's cache partition)
+ */
 @Service
 public class SuggestionService {
     
+    private static final int MIN_INFIX_QUERY_LENGTH = 3;
+    
+    // Rows per transaction in bulkAddSuggestions
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    private static final Pattern LIKE_SPECIAL_CHARACTERS = Pattern.compile("[\\\\%_]");
+    
     @Autowired
     private SuggestionRepository suggestionRepository;
     
+    @Autowired
+    private TenantCacheManager cacheManager;
+    
+    @Autowired
+    private SuggestionIndexRegistry suggestionIndexes;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     /**
      * Get autocomplete suggestions with optimized performance (< 100ms)
-     * Implements Trie-like prefix search using database indexes
+     * Served from the tenant's in-memory SuggestionIndex once loaded, database prefix search until then
      */
-    @Cacheable(value = "suggestions", key = "#query + '_' + #limit")
-    public List<Suggestion> getSuggestions(String query, int limit) {
-        System.out.println("Service: getSuggestions called with query: '" + query + "', limit: " + limit); // Debug log
+    @Cacheable(value = "suggestions", cacheResolver = "tenantCacheResolver", sync = true, key = "#query + '_' + #limit")
+    public List<Suggestion> getSuggestions(String tenant, String query, int limit) {
+        System.out.println("Service: getSuggestions called for tenant: '" + tenant + "' with query: '" + query + "', limit: " + limit); // Debug log
         
         if (query == null || query.trim().isEmpty()) {
             System.out.println("Service: Empty query, returning empty list"); // Debug log
@@ -33,8 +72,13 @@ public class SuggestionService {
         String trimmedQuery = query.trim();
         System.out.println("Service: Searching for trimmed query: '" + trimmedQuery + "'"); // Debug log
         
+        if (suggestionIndexes.isReady()) {
+            return suggestionIndexes.forTenant(tenant).search(trimmedQuery, null, limit);
+        }
+        
         List<Suggestion> suggestions = suggestionRepository
-                .findByTextStartingWithIgnoreCaseOrderByFrequencyDescLastUsedDescTextAsc(trimmedQuery);
+                .findByTenantAndNormalizedTextStartingWithOrderByFrequencyDescLastUsedDescTextAsc(
+                        tenant, likePattern(trimmedQuery));
         
         System.out.println("Service: Repository returned " + suggestions.size() + " suggestions"); // Debug log
         
@@ -46,18 +90,57 @@ public class SuggestionService {
         return limitedSuggestions;
     }
     
+    /**
+     * Get infix/substring suggestions (e.g. "york" finds "newyork")
+     * Uses the trigram index; prefix matches are boosted above infix ones
+     */
+    @Cacheable(value = "infixSuggestions", cacheResolver = "tenantCacheResolver", sync = true, key = "#query + '_' + #limit")
+    public List<Suggestion> getInfixSuggestions(String tenant, String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        
+        String trimmedQuery = query.trim();
+        
+        // Shorter queries (or ones made of wildcard characters like "%%%") would scan the whole table
+        if (!usesTrigramIndex(trimmedQuery)) {
+            return getSuggestions(tenant, trimmedQuery, limit);
+        }
+        
+        return suggestionRepository.findByTenantAndNormalizedTextContainingPrefixFirst(
+                tenant, likePattern(trimmedQuery), limit);
+    }
+    
+    /**
+     * Cache-only lookup used when the endpoint is shedding load
+     * Returns null on a cache miss; never touches the database
+     */
+    @SuppressWarnings("unchecked")
+    public List<Suggestion> getCachedSuggestions(String tenant, String query, int limit, boolean infix) {
+        Cache cache = cacheManager.getCache(infix ? "infixSuggestions" : "suggestions", tenant);
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(query + "_" + limit, List.class);
+    }
+    
     /**
      * Get autocomplete suggestions by category
      */
-    @Cacheable(value = "suggestionsByCategory", key = "#query + '_' + #category + '_' + #limit")
-    public List<Suggestion> getSuggestionsByCategory(String query, String category, int limit) {
+    @Cacheable(value = "suggestionsByCategory", cacheResolver = "tenantCacheResolver", sync = true, key = "#query + '_' + #category + '_' + #limit")
+    public List<Suggestion> getSuggestionsByCategory(String tenant, String query, String category, int limit) {
         if (query == null || query.trim().isEmpty()) {
             return List.of();
         }
         
         String trimmedQuery = query.trim();
+        if (suggestionIndexes.isReady()) {
+            return suggestionIndexes.forTenant(tenant).search(trimmedQuery, category, limit);
+        }
+        
         List<Suggestion> suggestions = suggestionRepository
-                .findByCategoryAndTextStartingWithIgnoreCaseOrderByFrequencyDescLastUsedDescTextAsc(category, trimmedQuery);
+                .findByTenantAndCategoryAndNormalizedTextStartingWithOrderByFrequencyDescLastUsedDescTextAsc(
+                        tenant, category, likePattern(trimmedQuery));
         
         return suggestions.stream()
                 .limit(limit)
@@ -68,8 +151,15 @@ public class SuggestionService {
      * Add a new suggestion or increment frequency if it exists (Learning Capability)
      */
     @Transactional
-    public Suggestion addSuggestion(String text, String category) {
-        Suggestion existingSuggestion = suggestionRepository.findByTextIgnoreCase(text);
+    public Suggestion addSuggestion(String tenant, String text, String category) {
+        Suggestion saved = saveOrIncrement(tenant, text, category);
+        publishIndexUpdate(tenant, List.of(saved), List.of());
+        return saved;
+    }
+    
+    private Suggestion saveOrIncrement(String tenant, String text, String category) {
+        Suggestion existingSuggestion = suggestionRepository
+                .findFirstByTenantAndNormalizedText(tenant, TextNormalizer.normalize(text));
         
         if (existingSuggestion != null) {
             // Learning: Increment frequency and update last used
@@ -77,7 +167,7 @@ public class SuggestionService {
             return suggestionRepository.save(existingSuggestion);
         } else {
             // Create new suggestion
-            Suggestion newSuggestion = new Suggestion(text, category);
+            Suggestion newSuggestion = new Suggestion(tenant, text, category);
             return suggestionRepository.save(newSuggestion);
         }
     }
@@ -86,76 +176,211 @@ public class SuggestionService {
      * Record suggestion selection for learning (Learning Capability)
      */
     @Transactional
-    public void recordSuggestionSelection(Long suggestionId) {
-        suggestionRepository.incrementFrequencyAndUpdateLastUsed(suggestionId);
+    public void recordSuggestionSelection(String tenant, Long suggestionId) {
+        if (suggestionRepository.incrementFrequencyAndUpdateLastUsed(tenant, suggestionId) == 0) {
+            return;
+        }
+        suggestionRepository.findByIdAndTenant(suggestionId, tenant)
+                .ifPresent(suggestion -> publishIndexUpdate(tenant, List.of(suggestion), List.of()));
     }
     
     /**
      * Get all suggestions (for admin dashboard)
      */
-    public List<Suggestion> getAllSuggestions() {
-        return suggestionRepository.findAll();
+    public List<Suggestion> getAllSuggestions(String tenant) {
+        return suggestionRepository.findByTenant(tenant);
     }
     
     /**
      * Get suggestions by category (for admin dashboard)
      */
-    public List<Suggestion> getSuggestionsByCategory(String category) {
-        return suggestionRepository.findByCategoryOrderByFrequencyDesc(category);
+    public List<Suggestion> getSuggestionsByCategory(String tenant, String category) {
+        return suggestionRepository.findByTenantAndCategoryOrderByFrequencyDesc(tenant, category);
     }
     
     /**
      * Get recently used suggestions (Learning Capability)
      */
-    public List<Suggestion> getRecentlyUsedSuggestions(int limit) {
-        return suggestionRepository.findRecentlyUsed(limit);
+    public List<Suggestion> getRecentlyUsedSuggestions(String tenant, int limit) {
+        return suggestionRepository.findRecentlyUsed(tenant, limit);
     }
     
     /**
      * Get suggestions by frequency range (for admin dashboard)
      */
-    public List<Suggestion> getSuggestionsByFrequencyRange(int minFreq, int maxFreq) {
-        return suggestionRepository.findByFrequencyRange(minFreq, maxFreq);
+    public List<Suggestion> getSuggestionsByFrequencyRange(String tenant, int minFreq, int maxFreq) {
+        return suggestionRepository.findByFrequencyRange(tenant, minFreq, maxFreq);
     }
     
     /**
      * Get statistics for admin dashboard
      */
-    public SuggestionStats getStats() {
-        long totalSuggestions = suggestionRepository.count();
-        long englishWords = suggestionRepository.countByCategory("english");
-        long sampleWords = suggestionRepository.countByCategory("sample");
+    public SuggestionStats getStats(String tenant) {
+        long totalSuggestions = suggestionRepository.countByTenant(tenant);
+        long englishWords = suggestionRepository.countByTenantAndCategory(tenant, "english");
+        long sampleWords = suggestionRepository.countByTenantAndCategory(tenant, "sample");
         
         return new SuggestionStats(totalSuggestions, englishWords, sampleWords);
     }
     
     /**
-     * Delete a suggestion by ID
+     * Delete a suggestion by ID (only within the tenant)
      */
     @Transactional
-    public void deleteSuggestion(Long id) {
-        suggestionRepository.deleteById(id);
+    public void deleteSuggestion(String tenant, Long id) {
+        suggestionRepository.findByIdAndTenant(id, tenant).ifPresent(suggestion -> {
+            suggestionRepository.delete(suggestion);
+            publishIndexUpdate(tenant, List.of(), List.of(suggestion.getText()));
+        });
     }
     
     /**
      * Update suggestion (for admin dashboard)
+     * A rename onto text that folds to another row's key (e.g. "Cafe" when "café" exists) is rejected
      */
     @Transactional
-    public Suggestion updateSuggestion(Long id, String text, String category) {
-        Suggestion suggestion = suggestionRepository.findById(id)
+    public Suggestion updateSuggestion(String tenant, Long id, String text, String category) {
+        Suggestion suggestion = suggestionRepository.findByIdAndTenant(id, tenant)
                 .orElseThrow(() -> new RuntimeException("Suggestion not found"));
         
+        Suggestion collision = suggestionRepository.findFirstByTenantAndNormalizedText(tenant, TextNormalizer.normalize(text));
+        if (collision != null && !collision.getId().equals(id)) {
+            throw new RuntimeException("Suggestion already exists");
+        }
+        
+        String oldText = suggestion.getText();
         suggestion.setText(text);
         suggestion.setCategory(category);
-        return suggestionRepository.save(suggestion);
+        Suggestion saved = suggestionRepository.save(suggestion);
+        publishIndexUpdate(tenant, List.of(saved), List.of(oldText));
+        return saved;
     }
     
     /**
      * Bulk add suggestions (for admin dashboard)
+     * Runs in chunks of BULK_CHUNK_SIZE, one transaction each: existing keys are found with a single
+     * IN query per chunk and the persistence context is cleared after every chunk, so large imports
+     * stay linear in time and bounded in memory. Each chunk reaches the index as one delta swap.
      */
-    @Transactional
-    public void bulkAddSuggestions(List<String> texts, String category) {
-        texts.parallelStream().forEach(text -> addSuggestion(text, category));
+    public void bulkAddSuggestions(String tenant, List<String> texts, String category) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < texts.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = texts.subList(from, Math.min(from + BULK_CHUNK_SIZE, texts.size()));
+            transaction.executeWithoutResult(status -> addChunk(tenant, chunk, category));
+        }
+    }
+    
+    private void addChunk(String tenant, List<String> texts, String category) {
+        // First text wins for each folded key; repeats within the chunk count as extra uses
+        Map<String, String> textByKey = new LinkedHashMap<>();
+        Map<String, Integer> usesByKey = new LinkedHashMap<>();
+        for (String text : texts) {
+            String key = TextNormalizer.normalize(text);
+            textByKey.putIfAbsent(key, text);
+            usesByKey.merge(key, 1, Integer::sum);
+        }
+        
+        Map<String, Suggestion> byKey = new LinkedHashMap<>();
+        for (Suggestion existing : suggestionRepository.findByTenantAndNormalizedTextIn(tenant, textByKey.keySet())) {
+            byKey.putIfAbsent(existing.getNormalizedText(), existing);
+        }
+        
+        List<Suggestion> batch = new ArrayList<>(textByKey.size());
+        textByKey.forEach((key, text) -> {
+            Suggestion suggestion = byKey.get(key);
+            int uses = usesByKey.get(key);
+            if (suggestion == null) {
+                suggestion = new Suggestion(tenant, text, category);
+                uses--;
+            }
+            for (int i = 0; i < uses; i++) {
+                suggestion.incrementFrequency();
+            }
+            batch.add(suggestion);
+        });
+        
+        List<Suggestion> saved = suggestionRepository.saveAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+        publishIndexUpdate(tenant, saved, List.of());
+    }
+    
+    /**
+     * Push changes to the tenant's index and drop its stale cached results once the transaction commits
+     * Only cached queries that could match a changed text are evicted, so the cache-only fallback
+     * used under load keeps its other entries; other tenants' indexes and cache partitions are untouched.
+     * Lookups still computing from the old snapshot are not cached afterwards (sync = true, see TenantCacheManager)
+     */
+    private void publishIndexUpdate(String tenant, Collection<Suggestion> upserts, Collection<String> removedTexts) {
+        Runnable publish = () -> {
+            suggestionIndexes.forTenant(tenant).apply(upserts, removedTexts);
+            
+            List<Suggestion> changed = new ArrayList<>(upserts);
+            removedTexts.forEach(text -> changed.add(new Suggestion(tenant, text, null)));
+            cacheManager.evictIf(tenant, (cacheName, key) -> isAffected(cacheName, key.toString(), changed));
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+    
+    /**
+     * Whether a cached entry (key "query_limit", or "query_category_limit" for suggestionsByCategory)
+     * could contain one of the changed suggestions; unparseable keys and unknown categories count as affected
+     */
+    private static boolean isAffected(String cacheName, String key, Collection<Suggestion> changed) {
+        int separator = key.lastIndexOf('_');
+        if (separator < 0) {
+            return true;
+        }
+        String query = key.substring(0, separator);
+        boolean infix = "infixSuggestions".equals(cacheName);
+        boolean byCategory = "suggestionsByCategory".equals(cacheName);
+        
+        for (Suggestion suggestion : changed) {
+            String entryQuery = query;
+            if (byCategory) {
+                if (suggestion.getCategory() == null) {
+                    return true;
+                }
+                String categorySuffix = "_" + suggestion.getCategory();
+                if (!entryQuery.endsWith(categorySuffix)) {
+                    continue;
+                }
+                entryQuery = entryQuery.substring(0, entryQuery.length() - categorySuffix.length());
+            }
+            String normalizedQuery = TextNormalizer.normalize(entryQuery.trim());
+            String normalizedText = TextNormalizer.normalize(suggestion.getText());
+            if (infix ? normalizedText.contains(normalizedQuery) : normalizedText.startsWith(normalizedQuery)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Whether the infix query can use the trigram index: at least 3 characters of the normalized
+     * query (the text the LIKE pattern is built from) once wildcard characters are removed
+     */
+    static boolean usesTrigramIndex(String query) {
+        String literal = LIKE_SPECIAL_CHARACTERS.matcher(TextNormalizer.normalize(query)).replaceAll("");
+        return literal.codePointCount(0, literal.length()) >= MIN_INFIX_QUERY_LENGTH;
+    }
+    
+    /**
+     * Normalize the query and escape LIKE wildcards so user input only ever matches literally
+     * (repository queries declare ESCAPE '\\')
+     */
+    static String likePattern(String query) {
+        return LIKE_SPECIAL_CHARACTERS.matcher(TextNormalizer.normalize(query)).replaceAll("\\\\$0");
     }
     
     // Statistics class for admin dashboard
@@ -0,0 +1,272 @@
+package com.example.autocomplete.tenant;
+
+import com.example.autocomplete.model.Suggestion;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Cache manager with one LRU partition per tenant
+ * Each partition has its own memory quota (estimated bytes) shared by all cache names,
+ * so one tenant's traffic can only evict its own entries.
+ * Each partition also counts evictions (its write generation): a value loaded through
+ * get(key, valueLoader), i.e. @Cacheable(sync = true), is only stored if no eviction ran
+ * while it was computed, so a slow reader cannot re-cache results older than a write.
+ */
+public class TenantCacheManager implements CacheManager {
+
+    private final List<String> cacheNames;
+
+    private final long maxBytesPerTenant;
+
+    private final TenantMetrics metrics;
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    public TenantCacheManager(List<String> cacheNames, long maxBytesPerTenant, TenantMetrics metrics) {
+        this.cacheNames = List.copyOf(cacheNames);
+        this.maxBytesPerTenant = maxBytesPerTenant;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Cache in the default tenant's partition
+     */
+    @Override
+    public Cache getCache(String name) {
+        return getCache(name, Tenants.DEFAULT_TENANT);
+    }
+
+    /**
+     * Cache in the given tenant's partition, or null for an unknown cache name
+     */
+    public Cache getCache(String name, String tenant) {
+        if (!cacheNames.contains(name)) {
+            return null;
+        }
+        return new TenantCache(name, tenant, partitionFor(tenant));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    /**
+     * Drop the tenant's cached entries matching (cache name, key); the rest of the partition stays warm
+     */
+    public void evictIf(String tenant, BiPredicate<String, Object> cacheNameAndKey) {
+        Partition partition = partitions.get(tenant);
+        if (partition != null) {
+            partition.evictIf(cacheNameAndKey);
+        }
+    }
+
+    public long getUsedBytes(String tenant) {
+        Partition partition = partitions.get(tenant);
+        return partition != null ? partition.getUsedBytes() : 0;
+    }
+
+    private Partition partitionFor(String tenant) {
+        return partitions.computeIfAbsent(tenant, key -> new Partition(maxBytesPerTenant));
+    }
+
+    // Rough heap footprint of a cached value; only needs to be proportional for quota purposes
+    static long estimateBytes(Object value) {
+        if (value instanceof Collection<?> collection) {
+            long bytes = 64;
+            for (Object element : collection) {
+                bytes += estimateBytes(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Suggestion suggestion) {
+            return 160 + 2L * (length(suggestion.getText()) + length(suggestion.getNormalizedText())
+                    + length(suggestion.getCategory()) + length(suggestion.getTenant()));
+        }
+        return 64;
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private record PartitionKey(String cacheName, Object key) {
+    }
+
+    private record Entry(Object value, long bytes) {
+    }
+
+    // Access-ordered LRU with a byte budget; guarded by its own monitor so tenants never contend
+    private static final class Partition {
+        private final long maxBytes;
+        private final LinkedHashMap<PartitionKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long usedBytes;
+        private long generation;
+
+        private Partition(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        private synchronized Entry get(PartitionKey key) {
+            return entries.get(key);
+        }
+
+        private synchronized long getGeneration() {
+            return generation;
+        }
+
+        // Store only if nothing was evicted since the caller read `expectedGeneration`
+        private synchronized void putIfGeneration(PartitionKey key, Object value, long expectedGeneration) {
+            if (generation == expectedGeneration) {
+                put(key, value);
+            }
+        }
+
+        private synchronized void put(PartitionKey key, Object value) {
+            long bytes = estimateBytes(value);
+            if (bytes > maxBytes) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(value, bytes));
+            if (previous != null) {
+                usedBytes -= previous.bytes();
+            }
+            usedBytes += bytes;
+
+            Iterator<Map.Entry<PartitionKey, Entry>> eldest = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && eldest.hasNext()) {
+                usedBytes -= eldest.next().getValue().bytes();
+                eldest.remove();
+            }
+        }
+
+        private synchronized void evict(PartitionKey key) {
+            generation++;
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                usedBytes -= removed.bytes();
+            }
+        }
+
+        private synchronized void evictIf(BiPredicate<String, Object> cacheNameAndKey) {
+            generation++;
+            entries.entrySet().removeIf(entry -> {
+                if (cacheNameAndKey.test(entry.getKey().cacheName(), entry.getKey().key())) {
+                    usedBytes -= entry.getValue().bytes();
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private synchronized void clear(String cacheName) {
+            generation++;
+            entries.entrySet().removeIf(entry -> {
+                if (entry.getKey().cacheName().equals(cacheName)) {
+                    usedBytes -= entry.getValue().bytes();
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private synchronized long getUsedBytes() {
+            return usedBytes;
+        }
+    }
+
+    // View of one cache name inside a tenant partition
+    private final class TenantCache implements Cache {
+        private final String name;
+        private final String tenant;
+        private final Partition partition;
+
+        private TenantCache(String name, String tenant, Partition partition) {
+            this.name = name;
+            this.tenant = tenant;
+            this.partition = partition;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return partition;
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            Entry entry = partition.get(new PartitionKey(name, key));
+            if (entry == null) {
+                metrics.recordCacheMiss(tenant);
+                return null;
+            }
+            metrics.recordCacheHit(tenant);
+            return new SimpleValueWrapper(entry.value());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            if (wrapper == null) {
+                return null;
+            }
+            Object value = wrapper.get();
+            if (type != null && value != null && !type.isInstance(value)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            // Read the generation before the lookup so an eviction racing with the load is detected
+            long generation = partition.getGeneration();
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            try {
+                T value = valueLoader.call();
+                if (value != null) {
+                    partition.putIfGeneration(new PartitionKey(name, key), value, generation);
+                }
+                return value;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (value != null) {
+                partition.put(new PartitionKey(name, key), value);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            partition.evict(new PartitionKey(name, key));
+        }
+
+        @Override
+        public void clear() {
+            partition.clear(name);
+        }
+    }
+}
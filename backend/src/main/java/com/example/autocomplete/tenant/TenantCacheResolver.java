@@ -0,0 +1,36 @@
+package com.example.autocomplete.tenant;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Resolves @Cacheable caches inside the tenant's partition
+ * By convention the tenant is the first argument of every cached service method
+ */
+public class TenantCacheResolver implements CacheResolver {
+
+    private final TenantCacheManager cacheManager;
+
+    public TenantCacheResolver(TenantCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Object[] args = context.getArgs();
+        String tenant = args.length > 0 && args[0] instanceof String value ? value : Tenants.DEFAULT_TENANT;
+        return context.getOperation().getCacheNames().stream()
+                .map(name -> {
+                    Cache cache = cacheManager.getCache(name, tenant);
+                    if (cache == null) {
+                        throw new IllegalArgumentException("Cannot find cache named '" + name + "' for " + context.getOperation());
+                    }
+                    return cache;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.autocomplete.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects API requests with a malformed or unconfigured X-Tenant-Id header before they reach rate limits or caches
+ * A missing header means the default tenant. Only tenants listed in TenantProperties are accepted, so
+ * clients cannot create tenants (and their caches, indexes and metrics) by sending new ids.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(Tenants.HEADER);
+        if (tenant != null && !Tenants.isValid(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + Tenants.HEADER);
+            return;
+        }
+        if (tenant != null && !tenantProperties.isKnown(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown tenant");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
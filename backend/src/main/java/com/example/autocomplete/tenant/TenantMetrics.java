@@ -0,0 +1,104 @@
+package com.example.autocomplete.tenant;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tenant request, shedding and cache counters
+ */
+@Component
+public class TenantMetrics {
+
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Stands in for tenants without traffic yet, so reads never add entries
+    private static final Counters NO_TRAFFIC = new Counters();
+
+    public void recordRequest(String tenant, long latencyNanos) {
+        Counters c = countersFor(tenant);
+        c.requests.increment();
+        c.latencyNanos.add(latencyNanos);
+    }
+
+    public void recordRateLimited(String tenant) {
+        countersFor(tenant).rateLimited.increment();
+    }
+
+    public void recordShed(String tenant) {
+        countersFor(tenant).shed.increment();
+    }
+
+    public void recordCacheHit(String tenant) {
+        countersFor(tenant).cacheHits.increment();
+    }
+
+    public void recordCacheMiss(String tenant) {
+        countersFor(tenant).cacheMisses.increment();
+    }
+
+    public TenantStats getStats(String tenant, long cacheBytes, int indexSize, double concurrencyLimit, int inFlight) {
+        Counters c = counters.getOrDefault(tenant, NO_TRAFFIC);
+        long requests = c.requests.sum();
+        double avgLatencyMs = requests == 0 ? 0 : c.latencyNanos.sum() / 1_000_000.0 / requests;
+        return new TenantStats(tenant, requests, c.rateLimited.sum(), c.shed.sum(),
+                c.cacheHits.sum(), c.cacheMisses.sum(), avgLatencyMs, cacheBytes, indexSize, concurrencyLimit, inFlight);
+    }
+
+    private Counters countersFor(String tenant) {
+        return counters.computeIfAbsent(tenant, key -> new Counters());
+    }
+
+    private static final class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+    }
+
+    // Statistics class for the tenant metrics endpoint
+    public static class TenantStats {
+        private final String tenant;
+        private final long requests;
+        private final long rateLimited;
+        private final long shed;
+        private final long cacheHits;
+        private final long cacheMisses;
+        private final double averageLatencyMs;
+        private final long cacheBytes;
+        private final int indexSize;
+        private final double concurrencyLimit;
+        private final int inFlight;
+
+        public TenantStats(String tenant, long requests, long rateLimited, long shed, long cacheHits,
+                           long cacheMisses, double averageLatencyMs, long cacheBytes, int indexSize,
+                           double concurrencyLimit, int inFlight) {
+            this.tenant = tenant;
+            this.requests = requests;
+            this.rateLimited = rateLimited;
+            this.shed = shed;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.averageLatencyMs = averageLatencyMs;
+            this.cacheBytes = cacheBytes;
+            this.indexSize = indexSize;
+            this.concurrencyLimit = concurrencyLimit;
+            this.inFlight = inFlight;
+        }
+
+        public String getTenant() { return tenant; }
+        public long getRequests() { return requests; }
+        public long getRateLimited() { return rateLimited; }
+        public long getShed() { return shed; }
+        public long getCacheHits() { return cacheHits; }
+        public long getCacheMisses() { return cacheMisses; }
+        public double getAverageLatencyMs() { return averageLatencyMs; }
+        public long getCacheBytes() { return cacheBytes; }
+        public int getIndexSize() { return indexSize; }
+        public double getConcurrencyLimit() { return concurrencyLimit; }
+        public int getInFlight() { return inFlight; }
+    }
+}
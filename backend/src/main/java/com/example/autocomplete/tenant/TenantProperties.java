@@ -0,0 +1,75 @@
+package com.example.autocomplete.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tenant registry and per-tenant budgets (autocomplete.tenant.*)
+ * Only configured tenants are accepted: the default tenant, the ids list and any tenant with a qps override.
+ * Defaults apply to every tenant; the qps map overrides the QPS limit for individual tenants
+ */
+@Component
+@ConfigurationProperties(prefix = "autocomplete.tenant")
+public class TenantProperties {
+
+    private double defaultQps = 200;
+
+    private double burstSeconds = 2;
+
+    private Set<String> ids = new HashSet<>();
+
+    private long cacheMaxBytes = 8L * 1024 * 1024;
+
+    private Map<String, Double> qps = new HashMap<>();
+
+    /**
+     * Whether the tenant is configured; requests for other tenants are rejected by TenantFilter
+     */
+    public boolean isKnown(String tenant) {
+        return Tenants.DEFAULT_TENANT.equals(tenant) || ids.contains(tenant) || qps.containsKey(tenant);
+    }
+
+    /**
+     * Number of configured tenants, including the default tenant
+     */
+    public int getKnownTenantCount() {
+        Set<String> known = new HashSet<>(ids);
+        known.addAll(qps.keySet());
+        known.add(Tenants.DEFAULT_TENANT);
+        return known.size();
+    }
+
+    /**
+     * QPS limit for the tenant (override or default)
+     */
+    public double qpsFor(String tenant) {
+        return qps.getOrDefault(tenant, defaultQps);
+    }
+
+    /**
+     * Token bucket capacity for the tenant: burstSeconds worth of its QPS
+     */
+    public double burstFor(String tenant) {
+        return qpsFor(tenant) * burstSeconds;
+    }
+
+    public double getDefaultQps() { return defaultQps; }
+    public void setDefaultQps(double defaultQps) { this.defaultQps = defaultQps; }
+
+    public double getBurstSeconds() { return burstSeconds; }
+    public void setBurstSeconds(double burstSeconds) { this.burstSeconds = burstSeconds; }
+
+    public Set<String> getIds() { return ids; }
+    public void setIds(Set<String> ids) { this.ids = ids; }
+
+    public long getCacheMaxBytes() { return cacheMaxBytes; }
+    public void setCacheMaxBytes(long cacheMaxBytes) { this.cacheMaxBytes = cacheMaxBytes; }
+
+    public Map<String, Double> getQps() { return qps; }
+    public void setQps(Map<String, Double> qps) { this.qps = qps; }
+}
@@ -0,0 +1,23 @@
+package com.example.autocomplete.tenant;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tenant namespace constants shared by the web layer, model and caches
+ */
+public final class Tenants {
+
+    public static final String HEADER = "X-Tenant-Id";
+
+    public static final String DEFAULT_TENANT = "default";
+
+    // Tenant ids end up in cache names and metrics keys, so keep them short and simple
+    private static final Pattern VALID_TENANT = Pattern.compile("[a-z0-9][a-z0-9_-]{0,63}");
+
+    private Tenants() {
+    }
+
+    public static boolean isValid(String tenant) {
+        return tenant != null && VALID_TENANT.matcher(tenant).matches();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.autocomplete.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the folded search key stored with each suggestion and applied to queries:
+ * NFKC compatibility normalization, locale-independent case folding and accent stripping.
+ * "Café", "CAFE" and "café" all fold to "cafe"; Turkish "İ" and "ı" fold to "i".
+ */
+public final class TextNormalizer {
+
+    // Latin/Greek/Cyrillic diacritics only; marks that are letters in other scripts are kept
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        // Upper then lower approximates full case folding (e.g. "ß" -> "ss", "ı" -> "i")
+        normalized = normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        normalized = Normalizer.normalize(normalized, Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("");
+        return Normalizer.normalize(normalized, Normalizer.Form.NFKC);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
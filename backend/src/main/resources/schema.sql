@@ -0,0 +1,19 @@
+-- Runs after Hibernate has created/updated the tables
+-- (see spring.jpa.defer-datasource-initialization in application.properties)
+
+-- Text is unique per tenant (uk_suggestions_tenant_text); drop the old global unique(text)
+-- constraint Hibernate generated before tenants existed
+ALTER TABLE suggestions DROP CONSTRAINT IF EXISTS UK_3g042xjw2axu9a4q8y44qq7dg;
+
+-- Prefix search on the pre-normalized key within a tenant
+-- (text_pattern_ops makes LIKE 'x%' indexable under any collation)
+DROP INDEX IF EXISTS idx_suggestions_normalized_text_prefix;
+CREATE INDEX IF NOT EXISTS idx_suggestions_tenant_normalized_text_prefix ON suggestions (tenant, normalized_text text_pattern_ops);
+
+-- Trigram index backing the infix/substring suggestion mode, tenant-leading so a tenant's
+-- infix lookup only visits its own rows (btree_gin provides the GIN opclass for the tenant column)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+DROP INDEX IF EXISTS idx_suggestions_text_trgm;
+DROP INDEX IF EXISTS idx_suggestions_normalized_text_trgm;
+CREATE INDEX IF NOT EXISTS idx_suggestions_tenant_normalized_text_trgm ON suggestions USING gin (tenant, normalized_text gin_trgm_ops);
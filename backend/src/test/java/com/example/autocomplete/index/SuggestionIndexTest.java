@@ -0,0 +1,162 @@
+package com.example.autocomplete.index;
+
+import com.example.autocomplete.model.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Merges only run when a test calls them
+        index = new SuggestionIndex(Integer.MAX_VALUE, runnable -> { });
+    }
+
+    @Test
+    void tombstoneInActiveDeltaHidesBaseEntry() {
+        index.rebuild(List.of(suggestion("apple", 3), suggestion("apricot", 2)));
+
+        index.remove("apple");
+
+        assertEquals(List.of("apricot"), texts(index.search("ap", null, 10)));
+    }
+
+    @Test
+    void tombstoneInActiveDeltaHidesFrozenEntry() {
+        index.upsert(suggestion("apple", 3));
+        assertNotNull(index.freeze());
+
+        index.remove("apple");
+
+        assertTrue(index.search("ap", null, 10).isEmpty());
+    }
+
+    @Test
+    void newerActiveEntryHidesFrozenEntry() {
+        index.upsert(suggestion("banana", 1));
+        assertNotNull(index.freeze());
+
+        index.upsert(suggestion("banana", 5));
+
+        List<Suggestion> results = index.search("ban", null, 10);
+        assertEquals(1, results.size());
+        assertEquals(5, results.get(0).getFrequency());
+    }
+
+    @Test
+    void olderUpsertDoesNotReplaceNewerEntry() {
+        index.upsert(suggestion("cherry", 6));
+        index.upsert(suggestion("cherry", 5));
+
+        assertEquals(6, index.search("cher", null, 10).get(0).getFrequency());
+    }
+
+    @Test
+    void mergeMovesDeltaIntoBase() {
+        index.rebuild(List.of(suggestion("apple", 3)));
+        index.upsert(suggestion("avocado", 2));
+        index.remove("apple");
+
+        index.merge();
+
+        assertEquals(List.of("avocado"), texts(index.search("a", null, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rebuildWhileMergingSkipsTheSwapAndKeepsPendingWrites() {
+        index.upsert(suggestion("cherry", 4));
+        SuggestionIndex.Snapshot frozen = index.freeze();
+        assertNotNull(frozen);
+
+        index.rebuild(List.of(suggestion("date", 1)));
+        index.mergeFrozen(frozen);
+
+        // The rebuilt base stays in place and the frozen write survives as a pending entry
+        assertEquals(List.of("cherry", "date"), texts(index.search("", null, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rebuildDropsPendingEntriesOlderThanTheLoadedRow() {
+        index.upsert(suggestion("elderberry", 2));
+
+        index.rebuild(List.of(suggestion("elderberry", 7)));
+
+        List<Suggestion> results = index.search("elder", null, 10);
+        assertEquals(1, results.size());
+        assertEquals(7, results.get(0).getFrequency());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void topKOrderingMatchesRanking() {
+        List<Suggestion> all = new ArrayList<>();
+        all.add(suggestion("fig", 5, NOW.minusDays(2)));
+        all.add(suggestion("fennel", 5, NOW));
+        all.add(suggestion("feijoa", 9, NOW.minusDays(5)));
+        all.add(suggestion("filbert", 1, NOW));
+        all.add(suggestion("finger lime", 5, NOW));
+        index.rebuild(all.subList(0, 2));
+        index.upsert(all.get(2));
+        index.freeze();
+        index.upsert(all.get(3));
+        index.upsert(all.get(4));
+
+        List<Suggestion> expected = new ArrayList<>(all);
+        expected.sort(SuggestionIndex.RANKING);
+
+        assertEquals(texts(expected.subList(0, 3)), texts(index.search("f", null, 3)));
+        assertEquals(texts(expected), texts(index.search("f", null, 10)));
+    }
+
+    @Test
+    void searchFoldsCaseAndFiltersCategory() {
+        Suggestion fruit = suggestion("Grape", 2);
+        fruit.setCategory("fruit");
+        index.rebuild(List.of(fruit, suggestion("grapefruit", 1)));
+
+        assertEquals(List.of("Grape"), texts(index.search("GRA", "fruit", 10)));
+    }
+
+    @Test
+    void searchResultsKeepTheTenant() {
+        index.upsert(new Suggestion("acme", "hazelnut", "sample"));
+
+        assertEquals("acme", index.search("haz", null, 10).get(0).getTenant());
+    }
+
+    @Test
+    void hugeLimitDoesNotPreallocate() {
+        index.rebuild(List.of(suggestion("kiwi", 1), suggestion("kumquat", 2)));
+
+        assertEquals(List.of("kumquat", "kiwi"), texts(index.search("k", null, Integer.MAX_VALUE)));
+    }
+
+    private static Suggestion suggestion(String text, int frequency) {
+        return suggestion(text, frequency, NOW);
+    }
+
+    private static Suggestion suggestion(String text, int frequency, LocalDateTime lastUsed) {
+        Suggestion suggestion = new Suggestion(text, "sample");
+        suggestion.setFrequency(frequency);
+        suggestion.setLastUsed(lastUsed);
+        return suggestion;
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.autocomplete.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SLOW_NANOS = 200_000_000L;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "initialLimit", 10);
+        ReflectionTestUtils.setField(limiter, "minLimit", 4);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 20);
+        ReflectionTestUtils.setField(limiter, "latencyTargetMs", 50L);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+    }
+
+    @Test
+    void rejectsOnceTheLimitIsReached() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("acme"));
+        }
+        assertFalse(limiter.tryAcquire("acme"));
+        assertEquals(10, limiter.getInFlight("acme"));
+
+        limiter.release("acme", System.nanoTime(), true);
+        assertTrue(limiter.tryAcquire("acme"));
+    }
+
+    @Test
+    void growsOnlyWhenTheLimitIsInUse() {
+        // One request in flight out of 10: healthy but idle capacity, no growth
+        assertTrue(limiter.tryAcquire("acme"));
+        limiter.release("acme", System.nanoTime(), true);
+        assertEquals(10.0, limiter.getLimit("acme"));
+
+        // Half the limit in flight: additive increase of 1/limit
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("acme"));
+        }
+        limiter.release("acme", System.nanoTime(), true);
+        assertEquals(10.1, limiter.getLimit("acme"), 1e-9);
+    }
+
+    @Test
+    void growthStopsAtTheMaximum() {
+        ReflectionTestUtils.setField(limiter, "maxLimit", 10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("acme"));
+        }
+        limiter.release("acme", System.nanoTime(), true);
+
+        assertEquals(10.0, limiter.getLimit("acme"));
+    }
+
+    @Test
+    void slowRequestsBackOffMultiplicativelyDownToTheMinimum() {
+        assertTrue(limiter.tryAcquire("acme"));
+        limiter.release("acme", System.nanoTime() - SLOW_NANOS, true);
+        assertEquals(5.0, limiter.getLimit("acme"));
+
+        assertTrue(limiter.tryAcquire("acme"));
+        limiter.release("acme", System.nanoTime() - SLOW_NANOS, true);
+        assertEquals(4.0, limiter.getLimit("acme"));
+    }
+
+    @Test
+    void fastFailuresBackOff() {
+        assertTrue(limiter.tryAcquire("acme"));
+        limiter.release("acme", System.nanoTime(), false);
+
+        assertEquals(5.0, limiter.getLimit("acme"));
+    }
+
+    @Test
+    void tenantsHaveIndependentLimits() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("noisy"));
+        }
+        assertFalse(limiter.tryAcquire("noisy"));
+        assertTrue(limiter.tryAcquire("quiet"));
+
+        limiter.release("noisy", System.nanoTime() - SLOW_NANOS, true);
+        assertEquals(5.0, limiter.getLimit("noisy"));
+        assertEquals(10.0, limiter.getLimit("quiet"));
+        assertEquals(1, limiter.getInFlight("quiet"));
+    }
+}
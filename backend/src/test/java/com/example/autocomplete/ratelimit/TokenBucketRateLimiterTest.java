@@ -0,0 +1,94 @@
+package com.example.autocomplete.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void burstIsCappedAtCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("client"));
+        }
+        assertFalse(limiter.tryAcquire("client"));
+
+        // A long idle period refills to the capacity, not beyond
+        advanceMillis(10_000);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("client"));
+        }
+        assertFalse(limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100, now::get);
+        assertTrue(limiter.tryAcquire("client"));
+
+        advanceMillis(50);
+        assertFalse(limiter.tryAcquire("client"));
+
+        advanceMillis(50);
+        assertTrue(limiter.tryAcquire("client"));
+        assertFalse(limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, now::get);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void newClientsShareTheOverflowBucketOnceTheTableIsFull() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 2, now::get);
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+
+        // "a" and "b" are active, so "c" and "d" draw from one shared bucket of capacity 2
+        assertTrue(limiter.tryAcquire("c"));
+        assertTrue(limiter.tryAcquire("d"));
+        assertFalse(limiter.tryAcquire("c"));
+        assertFalse(limiter.tryAcquire("d"));
+
+        // Tracked clients keep their own buckets
+        assertTrue(limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void idleBucketsAreSweptAtMostOncePerRefillInterval() {
+        // Refill interval (empty to full) is 1 s
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1, now::get);
+        assertTrue(limiter.tryAcquire("a"));
+
+        // t=0.5s: table full, sweep runs but "a" is still refilling; "b" takes the overflow token
+        advanceMillis(500);
+        assertTrue(limiter.tryAcquire("b"));
+
+        // t=1.2s: "a" is idle and evictable, but the next sweep is not due before t=1.5s
+        advanceMillis(700);
+        assertFalse(limiter.tryAcquire("c"));
+
+        // t=1.5s: the sweep evicts "a" and "c" gets its own bucket
+        advanceMillis(300);
+        assertTrue(limiter.tryAcquire("c"));
+        // The overflow token refilled since t=0.5s is still there, so "c" did not use it
+        assertTrue(limiter.tryAcquire("d"));
+        assertFalse(limiter.tryAcquire("e"));
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(millis * 1_000_000L);
+    }
+}
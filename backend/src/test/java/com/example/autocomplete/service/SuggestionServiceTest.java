@@ -0,0 +1,38 @@
+package com.example.autocomplete.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionServiceTest {
+
+    @Test
+    void likePatternEscapesWildcards() {
+        assertEquals("\\%\\%\\%", SuggestionService.likePattern("%%%"));
+        assertEquals("\\_\\_\\_", SuggestionService.likePattern("___"));
+        assertEquals("a\\\\b", SuggestionService.likePattern("a\\b"));
+        assertEquals("100\\% new\\_york", SuggestionService.likePattern("100% New_York"));
+    }
+
+    @Test
+    void likePatternNormalizesTheQuery() {
+        assertEquals("cafe", SuggestionService.likePattern("Café"));
+        assertEquals("ffi", SuggestionService.likePattern("ﬃ"));
+    }
+
+    @Test
+    void trigramIndexNeedsThreeLiteralCharacters() {
+        assertTrue(SuggestionService.usesTrigramIndex("york"));
+        assertFalse(SuggestionService.usesTrigramIndex("yo"));
+        assertFalse(SuggestionService.usesTrigramIndex("%%%"));
+        assertFalse(SuggestionService.usesTrigramIndex("a_%b"));
+    }
+
+    @Test
+    void trigramLengthIsCountedOnTheNormalizedQuery() {
+        // One character that normalizes to three
+        assertTrue(SuggestionService.usesTrigramIndex("ﬃ"));
+    }
+}
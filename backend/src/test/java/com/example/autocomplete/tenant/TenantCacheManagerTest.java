@@ -0,0 +1,59 @@
+package com.example.autocomplete.tenant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TenantCacheManagerTest {
+
+    private TenantCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TenantCacheManager(List.of("suggestions"), 1024 * 1024, new TenantMetrics());
+    }
+
+    @Test
+    void loadedValueIsCached() {
+        Cache cache = cacheManager.getCache("suggestions", "acme");
+
+        cache.get("ja_10", () -> List.of("java"));
+
+        assertEquals(List.of("java"), cache.get("ja_10", List.class));
+    }
+
+    @Test
+    void valueLoadedAcrossAnEvictionIsNotCached() {
+        Cache cache = cacheManager.getCache("suggestions", "acme");
+        cache.put("other_10", List.of("other"));
+
+        // A write commits and evicts while the reader is still computing from the old snapshot
+        Object value = cache.get("ja_10", () -> {
+            cacheManager.evictIf("acme", (cacheName, key) -> key.toString().startsWith("ja"));
+            return List.of("stale");
+        });
+
+        assertEquals(List.of("stale"), value);
+        assertNull(cache.get("ja_10"));
+        assertNotNull(cache.get("other_10"));
+    }
+
+    @Test
+    void evictionInAnotherTenantDoesNotBlockCaching() {
+        Cache cache = cacheManager.getCache("suggestions", "acme");
+        cacheManager.getCache("suggestions", "globex").put("ja_10", List.of("jade"));
+
+        cache.get("ja_10", () -> {
+            cacheManager.evictIf("globex", (cacheName, key) -> true);
+            return List.of("java");
+        });
+
+        assertEquals(List.of("java"), cache.get("ja_10", List.class));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.autocomplete.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TextNormalizerTest {
+
+    @Test
+    void stripsAccentsAndLowercases() {
+        assertEquals("cafe", TextNormalizer.normalize("Café"));
+        assertEquals("cafe", TextNormalizer.normalize("CAFÉ"));
+        assertEquals("cafe", TextNormalizer.normalize("Cafe\u0301"));
+    }
+
+    @Test
+    void foldsTurkishDottedAndDotlessI() {
+        assertEquals("i", TextNormalizer.normalize("İ"));
+        assertEquals("i", TextNormalizer.normalize("ı"));
+        assertEquals("istanbul", TextNormalizer.normalize("İstanbul"));
+    }
+
+    @Test
+    void foldsSharpS() {
+        assertEquals("ss", TextNormalizer.normalize("ß"));
+        assertEquals("strasse", TextNormalizer.normalize("Straße"));
+    }
+
+    @Test
+    void appliesCompatibilityDecomposition() {
+        assertEquals("file", TextNormalizer.normalize("ﬁle"));
+        assertEquals("office", TextNormalizer.normalize("oﬃce"));
+        assertEquals("abc", TextNormalizer.normalize("ＡＢＣ"));
+    }
+
+    @Test
+    void isIdempotent() {
+        for (String text : List.of("Café", "İstanbul", "ı", "Straße", "ﬁle", "ＡＢＣ", "Ñandú", "hello", "Ἀθῆναι")) {
+            String once = TextNormalizer.normalize(text);
+            assertEquals(once, TextNormalizer.normalize(once), text);
+        }
+    }
+
+    @Test
+    void keepsNull() {
+        assertNull(TextNormalizer.normalize(null));
+    }
+}